@@ -0,0 +1,283 @@
+package frc.montylib.diagnostics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.RuntimeMXBean;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import com.sun.management.ThreadMXBean;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * A MontyLib class to monitor garbage collection pauses, heap occupancy and allocation rate of the robot loop.
+ * Publishes to NetworkTables and the on-robot DataLog, and tags each GC pause with the loop it landed in.
+ */
+public class RuntimeMonitor {
+    private static final double kBytesPerMegabyte = 1024.0 * 1024.0;
+
+    /** How many recent loop boundaries are kept for matching late GC notifications to their loop */
+    private static final int kLoopHistory = 256;
+
+    /** Collectors whose notifications are stop-the-world pauses (concurrent cycles such as "ZGC Cycles" are excluded) */
+    private static final Set<String> kPauseCollectors = Set.of(
+        "Copy", "MarkSweepCompact",
+        "PS Scavenge", "PS MarkSweep",
+        "ParNew",
+        "G1 Young Generation", "G1 Old Generation",
+        "ZGC Pauses", "Shenandoah Pauses"
+    );
+
+    /** A pause reported by the GC notification thread, waiting to be matched to a loop */
+    private static class Pause {
+        final double startTime; //JVM uptime, ms
+        final double durationMs;
+        final String description;
+
+        Pause(double start_time, double duration_ms, String description) {
+            this.startTime = start_time;
+            this.durationMs = duration_ms;
+            this.description = description;
+        }
+    }
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
+    private final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final NotificationListener gcListener = this::handleNotification;
+
+    private boolean started = false;
+    private boolean allocationTrackingEnabled = false;
+
+    //Loop k runs from loopEndTimes[k - 1] to loopEndTimes[k] (indexed modulo kLoopHistory), in JVM uptime milliseconds -
+    //the same clock as GcInfo start times, so the two never drift apart
+    private final double[] loopEndTimes = new double[kLoopHistory];
+    private final double[] loopPeriods = new double[kLoopHistory];
+    private long loopCount = 0;
+    private double lastLoopTimestamp = 0;
+    private long lastAllocatedBytes = 0;
+
+    //Written by the GC notification thread, drained by update() (guarded by itself)
+    private final ArrayDeque<Pause> pendingPauses = new ArrayDeque<>();
+
+    private long totalPauseCount = 0;
+    private double totalPauseMs, maxPauseMs = 0;
+
+    private final DoublePublisher loopPeriodPublisher, heapUsedPublisher, heapCommittedPublisher, heapMaxPublisher;
+    private final DoublePublisher allocatedPerLoopPublisher, allocationRatePublisher;
+    private final DoublePublisher lastPausePublisher, lastPauseLoopPeriodPublisher, maxPausePublisher, totalPausePublisher;
+    private final IntegerPublisher totalPauseCountPublisher, lastPauseLoopPublisher;
+
+    private final DoubleLogEntry loopPeriodLog, heapUsedLog, allocatedPerLoopLog;
+    private final DoubleLogEntry pauseDurationLog, pauseStartLog, pauseLoopPeriodLog;
+    private final IntegerLogEntry pauseLoopLog;
+    private final StringLogEntry pauseCauseLog;
+
+    /**Constructs a RuntimeMonitor publishing under the "RuntimeMonitor" table */
+    public RuntimeMonitor() {
+        this("RuntimeMonitor");
+    }
+
+    /**
+     * Constructs a RuntimeMonitor
+     * @param table_name the NetworkTables table and DataLog prefix to publish metrics under
+     */
+    public RuntimeMonitor(String table_name) {
+        NetworkTable table = NetworkTableInstance.getDefault().getTable(table_name);
+
+        loopPeriodPublisher = table.getDoubleTopic("LoopPeriodMs").publish();
+        heapUsedPublisher = table.getDoubleTopic("HeapUsedMB").publish();
+        heapCommittedPublisher = table.getDoubleTopic("HeapCommittedMB").publish();
+        heapMaxPublisher = table.getDoubleTopic("HeapMaxMB").publish();
+        allocatedPerLoopPublisher = table.getDoubleTopic("AllocatedPerLoopKB").publish();
+        allocationRatePublisher = table.getDoubleTopic("AllocationRateMBps").publish();
+        lastPausePublisher = table.getDoubleTopic("LastGCPauseMs").publish();
+        lastPauseLoopPublisher = table.getIntegerTopic("LastGCLoop").publish();
+        lastPauseLoopPeriodPublisher = table.getDoubleTopic("LastGCLoopPeriodMs").publish();
+        maxPausePublisher = table.getDoubleTopic("MaxGCPauseMs").publish();
+        totalPausePublisher = table.getDoubleTopic("TotalGCPauseMs").publish();
+        totalPauseCountPublisher = table.getIntegerTopic("TotalGCCount").publish();
+
+        DataLog log = DataLogManager.getLog();
+        String prefix = "/" + table_name + "/";
+
+        loopPeriodLog = new DoubleLogEntry(log, prefix + "LoopPeriodMs");
+        heapUsedLog = new DoubleLogEntry(log, prefix + "HeapUsedMB");
+        allocatedPerLoopLog = new DoubleLogEntry(log, prefix + "AllocatedPerLoopKB");
+        pauseDurationLog = new DoubleLogEntry(log, prefix + "GCPauseMs");
+        pauseStartLog = new DoubleLogEntry(log, prefix + "GCPauseUptimeMs");
+        pauseLoopLog = new IntegerLogEntry(log, prefix + "GCPauseLoop");
+        pauseLoopPeriodLog = new DoubleLogEntry(log, prefix + "GCPauseLoopPeriodMs");
+        pauseCauseLog = new StringLogEntry(log, prefix + "GCPauseCause");
+    }
+
+    /**Subscribes to garbage collection notifications and starts allocation tracking on the calling (robot) thread */
+    public void start() {
+        if (started) return;
+        started = true;
+
+        lastLoopTimestamp = Timer.getFPGATimestamp();
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(gcListener, null, null);
+            }
+        }
+
+        if (threadBean.isThreadAllocatedMemorySupported()) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+            allocationTrackingEnabled = true;
+            lastAllocatedBytes = threadBean.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**Unsubscribes from garbage collection notifications */
+    public void stop() {
+        if (!started) return;
+        started = false;
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) gc).removeNotificationListener(gcListener);
+                } catch (Exception e) {}
+            }
+        }
+    }
+
+    /**
+     * Publishes the metrics of the loop that just ran, then matches any reported GC pauses to the loop they started in
+     * @implNote call once at the end of robotPeriodic, from the robot thread
+     */
+    public void update() {
+        double timestamp = Timer.getFPGATimestamp();
+        double loopPeriod = timestamp - lastLoopTimestamp;
+        lastLoopTimestamp = timestamp;
+
+        int slot = (int) (loopCount % kLoopHistory);
+        double uptime = runtimeBean.getUptime();
+        loopEndTimes[slot] = uptime;
+        loopPeriods[slot] = loopPeriod;
+        loopCount++;
+
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        double heapUsed = heap.getUsed() / kBytesPerMegabyte;
+
+        double allocatedKB = -1;
+        double allocationRate = -1;
+        if (allocationTrackingEnabled) {
+            long allocatedBytes = threadBean.getCurrentThreadAllocatedBytes();
+            long delta = allocatedBytes - lastAllocatedBytes;
+            lastAllocatedBytes = allocatedBytes;
+
+            allocatedKB = delta / 1024.0;
+            allocationRate = loopPeriod > 0 ? (delta / kBytesPerMegabyte) / loopPeriod : 0;
+        }
+
+        loopPeriodPublisher.set(loopPeriod * 1000);
+        heapUsedPublisher.set(heapUsed);
+        heapCommittedPublisher.set(heap.getCommitted() / kBytesPerMegabyte);
+        heapMaxPublisher.set(heap.getMax() / kBytesPerMegabyte);
+        allocatedPerLoopPublisher.set(allocatedKB);
+        allocationRatePublisher.set(allocationRate);
+
+        loopPeriodLog.append(loopPeriod * 1000);
+        heapUsedLog.append(heapUsed);
+        allocatedPerLoopLog.append(allocatedKB);
+
+        matchPauses(uptime);
+    }
+
+    /**
+     * Returns the number of completed robot loops
+     * @return the number of calls to update()
+     */
+    public long getLoopCount() {
+        return loopCount;
+    }
+
+    /** Logs every pending pause that started in a completed loop, along with that loop's index and period */
+    private void matchPauses(double latest_loop_end) {
+        synchronized (pendingPauses) {
+            Iterator<Pause> iterator = pendingPauses.iterator();
+            while (iterator.hasNext()) {
+                Pause pause = iterator.next();
+
+                //Started in the loop that is still running - match it after the next update
+                if (pause.startTime > latest_loop_end) continue;
+                iterator.remove();
+
+                long loop = findLoop(pause.startTime);
+                double loopPeriod = loop >= 0 ? loopPeriods[(int) (loop % kLoopHistory)] * 1000 : -1;
+
+                totalPauseCount++;
+                totalPauseMs += pause.durationMs;
+                maxPauseMs = Math.max(maxPauseMs, pause.durationMs);
+
+                pauseDurationLog.append(pause.durationMs);
+                pauseStartLog.append(pause.startTime);
+                pauseLoopLog.append(loop);
+                pauseLoopPeriodLog.append(loopPeriod);
+                pauseCauseLog.append(pause.description);
+
+                lastPausePublisher.set(pause.durationMs);
+                lastPauseLoopPublisher.set(loop);
+                lastPauseLoopPeriodPublisher.set(loopPeriod);
+            }
+        }
+
+        maxPausePublisher.set(maxPauseMs);
+        totalPausePublisher.set(totalPauseMs);
+        totalPauseCountPublisher.set(totalPauseCount);
+    }
+
+    /** @return the index of the completed loop containing the given JVM uptime in milliseconds, or -1 if it is older than the loop history */
+    private long findLoop(double time) {
+        long oldest = Math.max(0, loopCount - kLoopHistory);
+
+        for (long loop = loopCount - 1; loop > oldest; loop--) {
+            if (loopEndTimes[(int) ((loop - 1) % kLoopHistory)] < time) return loop;
+        }
+        return loopCount > 0 && oldest == 0 ? 0 : -1;
+    }
+
+    /** Runs on the JMX notification thread, once per completed collection */
+    private void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (!kPauseCollectors.contains(info.getGcName())) return;
+
+        //GcInfo times are JVM uptime in milliseconds
+        GcInfo gcInfo = info.getGcInfo();
+        Pause pause = new Pause(
+            gcInfo.getStartTime(),
+            gcInfo.getEndTime() - gcInfo.getStartTime(),
+            info.getGcName() + ": " + info.getGcAction() + " (" + info.getGcCause() + ")"
+        );
+
+        synchronized (pendingPauses) {
+            pendingPauses.add(pause);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package frc.montylib.input;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.GenericHID;
+
+/**A MontyLib class to read a controller axis as a primitive, deadbanded input */
+public class ControllerAxis implements DoubleSupplier {
+    private final GenericHID controller;
+    private final int axis;
+    private final double deadband;
+    private final boolean inverted;
+
+    /**
+     * Constructs a ControllerAxis
+     * @param controller the controller to read from
+     * @param axis the raw axis index on the controller
+     * @param deadband the absolute value below which the axis reads 0.0 (the remaining range is rescaled to [0, 1])
+     * @param inverted whether the axis value should be negated
+     */
+    public ControllerAxis(GenericHID controller, int axis, double deadband, boolean inverted) {
+        this.controller = controller;
+        this.axis = axis;
+        this.deadband = deadband;
+        this.inverted = inverted;
+    }
+
+    /**
+     * Constructs a ControllerAxis without a deadband (use when the deadband is applied further down the pipeline)
+     * @param controller the controller to read from
+     * @param axis the raw axis index on the controller
+     * @param inverted whether the axis value should be negated
+     */
+    public ControllerAxis(GenericHID controller, int axis, boolean inverted) {
+        this(controller, axis, 0.0, inverted);
+    }
+
+    @Override
+    public double getAsDouble() {
+        double value = controller.getRawAxis(axis);
+        return MathUtil.applyDeadband(inverted ? -value : value, deadband);
+    }
+}
@@ -0,0 +1,67 @@
+package frc.montylib.input;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A MontyLib class to shape a two-axis translation input in polar form.
+ * The deadband is applied to the stick magnitude rather than each axis, and the magnitude is capped at 1
+ * so diagonals are not faster than straight lines.
+ */
+public class PolarTranslationInput {
+    private final DoubleSupplier xSupplier, ySupplier;
+    private final double deadband;
+
+    private double x, y, magnitude, angle = 0;
+
+    /**
+     * Constructs a PolarTranslationInput
+     * @param x_supplier the raw (non-deadbanded) x axis
+     * @param y_supplier the raw (non-deadbanded) y axis
+     * @param deadband the stick magnitude below which the translation reads zero
+     */
+    public PolarTranslationInput(DoubleSupplier x_supplier, DoubleSupplier y_supplier, double deadband) {
+        this.xSupplier = x_supplier;
+        this.ySupplier = y_supplier;
+        this.deadband = deadband;
+    }
+
+    /**Samples both axes and recalculates the shaped translation - call once per loop before reading */
+    public void update() {
+        double rawX = xSupplier.getAsDouble();
+        double rawY = ySupplier.getAsDouble();
+        double rawMagnitude = Math.hypot(rawX, rawY);
+
+        if (rawMagnitude <= deadband) {
+            x = 0;
+            y = 0;
+            magnitude = 0;
+            return;
+        }
+
+        angle = Math.atan2(rawY, rawX);
+        magnitude = (Math.min(rawMagnitude, 1.0) - deadband) / (1.0 - deadband);
+
+        x = rawX / rawMagnitude * magnitude;
+        y = rawY / rawMagnitude * magnitude;
+    }
+
+    /** @return the shaped x component, in [-1, 1] */
+    public double getX() {
+        return x;
+    }
+
+    /** @return the shaped y component, in [-1, 1] */
+    public double getY() {
+        return y;
+    }
+
+    /** @return the shaped stick magnitude, in [0, 1] */
+    public double getMagnitude() {
+        return magnitude;
+    }
+
+    /** @return the stick angle in radians (holds its last value while the stick is in the deadband) */
+    public double getAngle() {
+        return angle;
+    }
+}
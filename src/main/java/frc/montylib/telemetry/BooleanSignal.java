@@ -0,0 +1,43 @@
+package frc.montylib.telemetry;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.montylib.telemetry.TelemetryBus.Priority;
+
+/**A MontyLib telemetry signal for a boolean, suppressed while unchanged */
+public class BooleanSignal extends TelemetrySignal {
+    private final BooleanPublisher publisher;
+
+    //0 = never set, 1 = false, 2 = true
+    private volatile int value = 0;
+    private int lastPublished = 0;
+
+    BooleanSignal(NetworkTableInstance instance, String name, Priority priority, double max_publish_rate) {
+        super(name, priority, max_publish_rate);
+        this.publisher = instance.getBooleanTopic(name).publish(publishOptions(max_publish_rate));
+    }
+
+    /**
+     * Sets the value to publish on the next flush
+     * @param value the latest value
+     */
+    public void set(boolean value) {
+        this.value = value ? 2 : 1;
+    }
+
+    @Override
+    protected int publishIfChanged() {
+        int current = value;
+        if (current == 0 || current == lastPublished) return 0;
+
+        publisher.set(current == 2);
+        lastPublished = current;
+        return 1 + kMessageOverheadBytes;
+    }
+
+    @Override
+    protected boolean hasPendingValue() {
+        int current = value;
+        return current != 0 && current != lastPublished;
+    }
+}
@@ -0,0 +1,48 @@
+package frc.montylib.telemetry;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.montylib.telemetry.TelemetryBus.Priority;
+
+/**A MontyLib telemetry signal for a double, suppressed while it stays within a threshold of the last published value */
+public class DoubleSignal extends TelemetrySignal {
+    private final DoublePublisher publisher;
+    private final double threshold;
+
+    private volatile double value = Double.NaN;
+    private double lastPublished = Double.NaN;
+
+    DoubleSignal(NetworkTableInstance instance, String name, Priority priority, double max_publish_rate, double threshold) {
+        super(name, priority, max_publish_rate);
+        this.publisher = instance.getDoubleTopic(name).publish(publishOptions(max_publish_rate));
+        this.threshold = threshold;
+    }
+
+    /**
+     * Sets the value to publish on the next flush
+     * @param value the latest value
+     */
+    public void set(double value) {
+        this.value = value;
+    }
+
+    @Override
+    protected int publishIfChanged() {
+        double current = value;
+        if (!hasChanged(current)) return 0;
+
+        publisher.set(current);
+        lastPublished = current;
+        return Double.BYTES + kMessageOverheadBytes;
+    }
+
+    @Override
+    protected boolean hasPendingValue() {
+        return hasChanged(value);
+    }
+
+    private boolean hasChanged(double current) {
+        if (Double.isNaN(current)) return false;
+        return Double.isNaN(lastPublished) || Math.abs(current - lastPublished) > threshold;
+    }
+}
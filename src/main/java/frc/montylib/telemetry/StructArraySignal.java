@@ -0,0 +1,54 @@
+package frc.montylib.telemetry;
+
+import java.util.Arrays;
+import java.util.function.BiPredicate;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StructArrayPublisher;
+import edu.wpi.first.util.struct.Struct;
+import frc.montylib.telemetry.TelemetryBus.Priority;
+
+/**A MontyLib telemetry signal for an array of struct values (SwerveModuleState[], ...) */
+public class StructArraySignal<T> extends TelemetrySignal {
+    private final StructArrayPublisher<T> publisher;
+    private final BiPredicate<T[], T[]> changed;
+    private final int size;
+
+    private volatile T[] value = null;
+    private T[] lastPublished = null;
+
+    StructArraySignal(NetworkTableInstance instance, String name, Struct<T> struct, Priority priority, double max_publish_rate, BiPredicate<T[], T[]> changed) {
+        super(name, priority, max_publish_rate);
+        this.publisher = instance.getStructArrayTopic(name, struct).publish(publishOptions(max_publish_rate));
+        this.changed = changed != null ? changed : (last, current) -> !Arrays.equals(last, current);
+        this.size = struct.getSize();
+    }
+
+    /**
+     * Sets the value to publish on the next flush
+     * @param value the latest value (must not be modified afterwards)
+     */
+    public void set(T[] value) {
+        this.value = value;
+    }
+
+    @Override
+    protected int publishIfChanged() {
+        T[] current = value;
+        if (!hasChanged(current)) return 0;
+
+        publisher.set(current);
+        lastPublished = current;
+        return size * current.length + kMessageOverheadBytes;
+    }
+
+    @Override
+    protected boolean hasPendingValue() {
+        return hasChanged(value);
+    }
+
+    private boolean hasChanged(T[] current) {
+        if (current == null) return false;
+        return lastPublished == null || lastPublished.length != current.length || changed.test(lastPublished, current);
+    }
+}
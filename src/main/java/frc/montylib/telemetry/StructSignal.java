@@ -0,0 +1,54 @@
+package frc.montylib.telemetry;
+
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.util.struct.Struct;
+import frc.montylib.telemetry.TelemetryBus.Priority;
+
+/**A MontyLib telemetry signal for a struct value (Pose2d, SwerveModuleState, ...) */
+public class StructSignal<T> extends TelemetrySignal {
+    private final StructPublisher<T> publisher;
+    private final BiPredicate<T, T> changed;
+    private final int size;
+
+    private volatile T value = null;
+    private T lastPublished = null;
+
+    StructSignal(NetworkTableInstance instance, String name, Struct<T> struct, Priority priority, double max_publish_rate, BiPredicate<T, T> changed) {
+        super(name, priority, max_publish_rate);
+        this.publisher = instance.getStructTopic(name, struct).publish(publishOptions(max_publish_rate));
+        this.changed = changed != null ? changed : (last, current) -> !Objects.equals(last, current);
+        this.size = struct.getSize();
+    }
+
+    /**
+     * Sets the value to publish on the next flush
+     * @param value the latest value (must not be modified afterwards)
+     */
+    public void set(T value) {
+        this.value = value;
+    }
+
+    @Override
+    protected int publishIfChanged() {
+        T current = value;
+        if (!hasChanged(current)) return 0;
+
+        publisher.set(current);
+        lastPublished = current;
+        return size + kMessageOverheadBytes;
+    }
+
+    @Override
+    protected boolean hasPendingValue() {
+        return hasChanged(value);
+    }
+
+    private boolean hasChanged(T current) {
+        if (current == null) return false;
+        return lastPublished == null || changed.test(lastPublished, current);
+    }
+}
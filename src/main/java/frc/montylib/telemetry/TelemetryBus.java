@@ -0,0 +1,252 @@
+package frc.montylib.telemetry;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.BiPredicate;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * A MontyLib class to publish telemetry to NetworkTables off the robot loop.
+ * Subsystems register signals with a priority and a maximum publish rate, then set values each loop;
+ * a background thread publishes changed values highest priority first, within a bandwidth budget.
+ */
+public class TelemetryBus {
+    private static TelemetryBus defaultBus = null;
+
+    /** Approximate size of one window's statistics messages (7 doubles/integers) */
+    private static final int kStatsBytes = 7 * (Long.BYTES + TelemetrySignal.kMessageOverheadBytes);
+
+    /** Minimum seconds between repeated reports of the same flush error */
+    private static final double kErrorReportPeriod = 1.0;
+
+    /**Flush order - when the bandwidth budget runs out, lower priority signals wait for a later flush */
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private final NetworkTableInstance instance;
+    private final String statsTableName;
+
+    private volatile TelemetrySignal[] signals = new TelemetrySignal[0];
+    private Thread flushThread = null;
+    private volatile boolean running = false;
+
+    private double flushPeriod = 0.02;
+    private double bandwidthBudget = 0;
+    private double availableBytes = 0;
+    private double lastFlushTime = 0;
+    private String lastErrorMessage = null;
+    private double lastErrorTime = Double.NEGATIVE_INFINITY;
+
+    //Statistics, owned by the flush thread
+    private double windowStart = 0;
+    private long windowBytes, windowPublished, windowSuppressed, windowDeferred, windowFlushes = 0;
+    private double windowFlushTime, windowMaxFlushTime = 0;
+    private DoublePublisher bytesPerSecondPublisher, meanFlushTimePublisher, maxFlushTimePublisher = null;
+    private IntegerPublisher publishedPublisher, suppressedPublisher, deferredPublisher, signalCountPublisher = null;
+
+    /** @return the bus publishing to the default NetworkTables instance */
+    public static synchronized TelemetryBus getDefault() {
+        if (defaultBus == null) {
+            defaultBus = new TelemetryBus(NetworkTableInstance.getDefault(), "TelemetryBus");
+        }
+        return defaultBus;
+    }
+
+    /**
+     * Constructs a TelemetryBus
+     * @param instance the NetworkTables instance to publish to
+     * @param stats_table_name the table the bus reports its own bandwidth usage under
+     */
+    public TelemetryBus(NetworkTableInstance instance, String stats_table_name) {
+        this.instance = instance;
+        this.statsTableName = stats_table_name;
+    }
+
+    /**
+     * Starts the background flush thread
+     * @param flush_period seconds between flushes
+     * @param bandwidth_budget approximate bytes per second the bus may hand to NetworkTables, per connected client (0 for unlimited)
+     */
+    public synchronized void start(double flush_period, double bandwidth_budget) {
+        if (running) return;
+
+        this.flushPeriod = flush_period;
+        this.bandwidthBudget = bandwidth_budget;
+
+        //BytesPerSecond is the approximate bytes handed to NetworkTables, i.e. sent to each connected client
+        NetworkTable stats = instance.getTable(statsTableName);
+        PubSubOption[] options = TelemetrySignal.publishOptions(1.0);
+        bytesPerSecondPublisher = stats.getDoubleTopic("BytesPerSecond").publish(options);
+        meanFlushTimePublisher = stats.getDoubleTopic("MeanFlushTimeMs").publish(options);
+        maxFlushTimePublisher = stats.getDoubleTopic("MaxFlushTimeMs").publish(options);
+        publishedPublisher = stats.getIntegerTopic("PublishedPerSecond").publish(options);
+        suppressedPublisher = stats.getIntegerTopic("SuppressedPerSecond").publish(options);
+        deferredPublisher = stats.getIntegerTopic("DeferredPerSecond").publish(options);
+        signalCountPublisher = stats.getIntegerTopic("SignalCount").publish(options);
+
+        running = true;
+        lastFlushTime = Timer.getFPGATimestamp();
+        windowStart = lastFlushTime;
+
+        flushThread = new Thread(() -> {
+            while (running) {
+                try {
+                    flush();
+                    Thread.sleep((long) (flushPeriod * 1000));
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    reportFlushError(e);
+                }
+            }
+        }, "TelemetryBus");
+        flushThread.setDaemon(true);
+        flushThread.start();
+    }
+
+    /**Stops the background flush thread */
+    public synchronized void stop() {
+        running = false;
+        if (flushThread != null) {
+            flushThread.interrupt();
+            flushThread = null;
+        }
+    }
+
+    /**
+     * Registers a double signal
+     * @param name the NetworkTables topic name
+     * @param priority the flush priority
+     * @param max_publish_rate the maximum publishes per second (0 for every flush)
+     * @param threshold the change from the last published value below which the value is suppressed
+     * @return the signal to set each loop
+     */
+    public DoubleSignal addDouble(String name, Priority priority, double max_publish_rate, double threshold) {
+        return register(new DoubleSignal(instance, name, priority, max_publish_rate, threshold));
+    }
+
+    /**
+     * Registers a boolean signal
+     * @param name the NetworkTables topic name
+     * @param priority the flush priority
+     * @param max_publish_rate the maximum publishes per second (0 for every flush)
+     * @return the signal to set each loop
+     */
+    public BooleanSignal addBoolean(String name, Priority priority, double max_publish_rate) {
+        return register(new BooleanSignal(instance, name, priority, max_publish_rate));
+    }
+
+    /**
+     * Registers a struct signal
+     * @param name the NetworkTables topic name
+     * @param struct the struct serializer (e.g. Pose2d.struct)
+     * @param priority the flush priority
+     * @param max_publish_rate the maximum publishes per second (0 for every flush)
+     * @param changed returns true if the new value differs enough from the last published one (null for !equals)
+     * @return the signal to set each loop
+     */
+    public <T> StructSignal<T> addStruct(String name, Struct<T> struct, Priority priority, double max_publish_rate, BiPredicate<T, T> changed) {
+        return register(new StructSignal<>(instance, name, struct, priority, max_publish_rate, changed));
+    }
+
+    /**
+     * Registers a struct array signal
+     * @param name the NetworkTables topic name
+     * @param struct the struct serializer (e.g. SwerveModuleState.struct)
+     * @param priority the flush priority
+     * @param max_publish_rate the maximum publishes per second (0 for every flush)
+     * @param changed returns true if the new value differs enough from the last published one (null for !Arrays.equals)
+     * @return the signal to set each loop
+     */
+    public <T> StructArraySignal<T> addStructArray(String name, Struct<T> struct, Priority priority, double max_publish_rate, BiPredicate<T[], T[]> changed) {
+        return register(new StructArraySignal<>(instance, name, struct, priority, max_publish_rate, changed));
+    }
+
+    private synchronized <S extends TelemetrySignal> S register(S signal) {
+        TelemetrySignal[] updated = Arrays.copyOf(signals, signals.length + 1);
+        updated[signals.length] = signal;
+        Arrays.sort(updated, Comparator.comparing(TelemetrySignal::getPriority));
+        signals = updated;
+        return signal;
+    }
+
+    /**Reports a flush error to the driver station, repeating the same error at most once per kErrorReportPeriod */
+    private void reportFlushError(Exception e) {
+        double now = Timer.getFPGATimestamp();
+        String message = e.toString();
+        if (message.equals(lastErrorMessage) && now - lastErrorTime < kErrorReportPeriod) return;
+
+        lastErrorMessage = message;
+        lastErrorTime = now;
+        DriverStation.reportError("TelemetryBus flush failed: " + message, e.getStackTrace());
+    }
+
+    /**Publishes every due, changed signal in priority order until the bandwidth budget is spent */
+    void flush() {
+        double now = Timer.getFPGATimestamp();
+        double start = now;
+
+        if (bandwidthBudget > 0) {
+            //Unused budget carries over for at most one second
+            availableBytes = Math.min(availableBytes + bandwidthBudget * (now - lastFlushTime), bandwidthBudget);
+        }
+        lastFlushTime = now;
+
+        for (TelemetrySignal signal : signals) {
+            if (!signal.isDue(now)) continue;
+
+            if (bandwidthBudget > 0 && availableBytes <= 0) {
+                if (signal.hasPendingValue()) windowDeferred++;
+                continue;
+            }
+
+            int bytes = signal.flush(now);
+            if (bytes > 0) {
+                availableBytes -= bytes;
+                windowBytes += bytes;
+                windowPublished++;
+            } else {
+                windowSuppressed++;
+            }
+        }
+
+        double end = Timer.getFPGATimestamp();
+        double flushTime = (end - start) * 1000;
+        windowFlushes++;
+        windowFlushTime += flushTime;
+        windowMaxFlushTime = Math.max(windowMaxFlushTime, flushTime);
+
+        if (end - windowStart >= 1.0) {
+            double window = end - windowStart;
+            bytesPerSecondPublisher.set(windowBytes / window);
+            publishedPublisher.set(Math.round(windowPublished / window));
+            suppressedPublisher.set(Math.round(windowSuppressed / window));
+            deferredPublisher.set(Math.round(windowDeferred / window));
+            signalCountPublisher.set(signals.length);
+            meanFlushTimePublisher.set(windowFlushTime / windowFlushes);
+            maxFlushTimePublisher.set(windowMaxFlushTime);
+
+            windowStart = end;
+            //The bus's own 7 statistics messages count towards the next window and the budget
+            windowBytes = kStatsBytes;
+            availableBytes -= kStatsBytes;
+            windowPublished = 0;
+            windowSuppressed = 0;
+            windowDeferred = 0;
+            windowFlushes = 0;
+            windowFlushTime = 0;
+            windowMaxFlushTime = 0;
+        }
+    }
+}
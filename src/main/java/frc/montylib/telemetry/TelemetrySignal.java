@@ -0,0 +1,68 @@
+package frc.montylib.telemetry;
+
+import edu.wpi.first.networktables.PubSubOption;
+import frc.montylib.telemetry.TelemetryBus.Priority;
+
+/**
+ * A MontyLib base class for a value published through the TelemetryBus.
+ * Values are set from the robot loop and published later by the bus's flush thread.
+ */
+public abstract class TelemetrySignal {
+    /** Approximate NT4 per-message overhead (topic id, timestamp, type) used for bandwidth accounting */
+    protected static final int kMessageOverheadBytes = 12;
+
+    /** NetworkTables send period for signals that publish on every flush */
+    private static final double kMinSendPeriod = 0.01;
+
+    private final String name;
+    private final Priority priority;
+    private final double minPublishPeriod;
+    private double lastPublishTime = Double.NEGATIVE_INFINITY;
+
+    protected TelemetrySignal(String name, Priority priority, double max_publish_rate) {
+        this.name = name;
+        this.priority = priority;
+        this.minPublishPeriod = max_publish_rate > 0 ? 1.0 / max_publish_rate : 0.0;
+    }
+
+    /**
+     * Publisher options that send every flushed value (sendAll) at the signal's rate, so the bus's byte accounting
+     * matches what NetworkTables sends instead of being coalesced to the latest value at the default 100 ms period
+     * @param max_publish_rate the maximum publishes per second (0 for every flush)
+     */
+    static PubSubOption[] publishOptions(double max_publish_rate) {
+        return new PubSubOption[] {
+            PubSubOption.sendAll(true),
+            PubSubOption.periodic(max_publish_rate > 0 ? 1.0 / max_publish_rate : kMinSendPeriod)
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /** @return true if the maximum publish rate allows this signal to publish at the given time */
+    boolean isDue(double now) {
+        return now - lastPublishTime >= minPublishPeriod;
+    }
+
+    /**
+     * Publishes the latest value if it changed enough since the last publish (flush thread only)
+     * @return the approximate number of bytes published, 0 if the value was suppressed
+     */
+    int flush(double now) {
+        int bytes = publishIfChanged();
+        if (bytes > 0) lastPublishTime = now;
+        return bytes;
+    }
+
+    /** @return the approximate number of bytes published, 0 if nothing was published */
+    protected abstract int publishIfChanged();
+
+    /** @return true if a value is waiting to be flushed (used to count deferred signals) */
+    protected abstract boolean hasPendingValue();
+}
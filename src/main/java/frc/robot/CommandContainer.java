@@ -4,26 +4,43 @@
 
 package frc.robot;
 
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import frc.robot.systems.swerve.Drive;
 import frc.robot.systems.swerve.commands.SwerveTeleController;
+import frc.robot.systems.swerve.constants.ControlConstants;
+import frc.robot.systems.swerve.constants.DriveConstants;
 
 public class CommandContainer {
 
   public Drive swerveDrive = new Drive();
 
-  public CommandXboxController controller = new CommandXboxController(0);
+  public CommandXboxController controller = new CommandXboxController(ControlConstants.kDriverControllerPort);
+
+  public SwerveTeleController swerveTeleController = new SwerveTeleController(swerveDrive, controller);
 
   public CommandContainer() {
 
-    swerveDrive.setDefaultCommand(new SwerveTeleController(swerveDrive, controller));
+    swerveDrive.setDefaultCommand(swerveTeleController);
 
     configureBindings();
   }
 
-  private void configureBindings() {}
+  private void configureBindings() {
+    //Snap headings follow the gyro convention, so each POV direction snaps to its own angle
+    controller.povUp().onTrue(swerveTeleController.snapToHeading(Rotation2d.fromDegrees(0)));
+    controller.povRight().onTrue(swerveTeleController.snapToHeading(Rotation2d.fromDegrees(90)));
+    controller.povDown().onTrue(swerveTeleController.snapToHeading(Rotation2d.fromDegrees(180)));
+    controller.povLeft().onTrue(swerveTeleController.snapToHeading(Rotation2d.fromDegrees(-90)));
+
+    //Seed the pose with the robot placed at the starting pose - face-point stays inactive until this is pressed
+    controller.back().onTrue(
+      Commands.runOnce(() -> swerveDrive.resetPose(Drive.allianceRelative(DriveConstants.kStartingPose))).ignoringDisable(true)
+    );
+    controller.leftBumper().whileTrue(swerveTeleController.facePoint(DriveConstants.kFacePointTarget));
+  }
 
   public Command getAutonomousCommand() {
     return Commands.print("No autonomous command configured");
@@ -7,20 +7,32 @@ package frc.robot;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.montylib.diagnostics.RuntimeMonitor;
+import frc.montylib.telemetry.TelemetryBus;
 
 public class Robot extends TimedRobot {
   private Command m_autonomousCommand;
 
   private CommandContainer m_robotContainer;
 
+  private RuntimeMonitor m_runtimeMonitor;
+
   @Override
   public void robotInit() {
+    m_runtimeMonitor = new RuntimeMonitor();
+    m_runtimeMonitor.start();
+
+    //Flush every 20ms within ~100kB/s, well under the field's bandwidth limit
+    TelemetryBus.getDefault().start(0.02, 100000);
+
     m_robotContainer = new CommandContainer();
   }
 
   @Override
   public void robotPeriodic() {
     CommandScheduler.getInstance().run();
+
+    m_runtimeMonitor.update();
   }
 
   @Override
@@ -1,17 +1,31 @@
 package frc.robot.systems.swerve;
 
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Twist2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.networktables.StructArrayPublisher;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.montylib.hardware.NavX2;
+import frc.montylib.telemetry.StructArraySignal;
+import frc.montylib.telemetry.StructSignal;
+import frc.montylib.telemetry.TelemetryBus;
+import frc.montylib.telemetry.TelemetryBus.Priority;
 import frc.robot.systems.swerve.constants.DriveConstants;
 import frc.robot.systems.swerve.constants.ModuleConstants;
 
 public class Drive extends SubsystemBase{
+
+    //Odometry runs in the drive frame the sensors report (see DriveConstants.kDriveFrameClockwise);
+    //poses entering or leaving Drive are in the WPILib field frame
+    private static final double kFrameSign = DriveConstants.kDriveFrameClockwise ? -1 : 1;
     
     private Module leftFrontModule = new Module(ModuleConstants.leftFrontInterface, ModuleConstants.kPivotPIDConstants);
     private Module rightFrontModule = new Module(ModuleConstants.rightFrontInterface, ModuleConstants.kPivotPIDConstants);
@@ -20,10 +34,27 @@ public class Drive extends SubsystemBase{
 
     private NavX2 gyroscope = new NavX2();
 
-    private StructArrayPublisher<SwerveModuleState> moduleStatePublisher = NetworkTableInstance.getDefault()
-    .getStructArrayTopic("MyStates", SwerveModuleState.struct).publish();
+    private StructArraySignal<SwerveModuleState> moduleStateSignal = TelemetryBus.getDefault()
+    .addStructArray("MyStates", SwerveModuleState.struct, Priority.NORMAL, 25, Drive::statesChanged);
+
+    private StructSignal<Pose2d> poseSignal = TelemetryBus.getDefault()
+    .addStruct("Pose", Pose2d.struct, Priority.LOW, 10, Drive::poseChanged);
+
+    private SwerveDriveOdometry odometry = null;
+    private boolean poseSeeded = false;
+
+    //Heading resets are requested from any thread and applied in periodic() as an offset from the raw gyro angle
+    private volatile boolean headingResetRequested = false;
+    private Rotation2d headingOffset = new Rotation2d();
+
+    //Simulation only - the commanded module states integrated into a pose and yaw, in place of the encoders and gyroscope
+    private SwerveModuleState[] commandedStates = DriveConstants.kDriveKinematics.toSwerveModuleStates(new ChassisSpeeds());
+    private Pose2d simulatedPose = new Pose2d();
+    private Rotation2d simulatedYaw = new Rotation2d();
 
     public Drive() {
+        odometry = new SwerveDriveOdometry(DriveConstants.kDriveKinematics, getGyroRotation2d(), getPositions());
+
         new Thread(() -> {
             try {
 
@@ -38,15 +69,112 @@ public class Drive extends SubsystemBase{
 
     @Override
     public void periodic() {
-        moduleStatePublisher.set(getStates());
+        if (headingResetRequested) {
+            headingResetRequested = false;
+            headingOffset = getGyroRotation2d();
+        }
+
+        odometry.update(getGyroRotation2d(), getPositions());
+        moduleStateSignal.set(getStates());
+        poseSignal.set(getPose());
+    }
+
+    @Override
+    public void simulationPeriodic() {
+        ChassisSpeeds speeds = DriveConstants.kDriveKinematics.toChassisSpeeds(commandedStates);
+        //Commanded speeds are fractions of the max module speed, integrated over one 20ms loop
+        double scale = ModuleConstants.kMaxModuleSpeed * 0.02;
+
+        simulatedPose = simulatedPose.exp(new Twist2d(
+            speeds.vxMetersPerSecond * scale,
+            speeds.vyMetersPerSecond * scale,
+            speeds.omegaRadiansPerSecond * scale
+        ));
+        simulatedYaw = simulatedYaw.plus(Rotation2d.fromRadians(speeds.omegaRadiansPerSecond * scale));
     }
 
+    /**Makes the robot's current direction the driver's zero heading (applied on the next periodic) - does not move the pose */
     public void resetHeading() {
-        gyroscope.reset();
+        headingResetRequested = true;
+    }
+
+    /**
+     * Seeds odometry with a known field pose
+     * @param pose the robot's pose in the WPILib field frame (blue origin, +y left, counter-clockwise positive)
+     */
+    public void resetPose(Pose2d pose) {
+        Pose2d drivePose = convertFrame(pose);
+
+        simulatedPose = drivePose;
+        odometry.resetPosition(getGyroRotation2d(), getPositions(), drivePose);
+        poseSeeded = true;
+    }
+
+    /** @return true once resetPose() has placed the robot on the field */
+    public boolean isPoseSeeded() {
+        return poseSeeded;
+    }
+
+    /** @return the robot's pose in the WPILib field frame (blue origin, +y left, counter-clockwise positive) */
+    public Pose2d getPose() {
+        return convertFrame(RobotBase.isSimulation() ? simulatedPose : odometry.getPoseMeters());
+    }
+
+    /**
+     * Converts a robot-relative drive-frame velocity to the field frame
+     * @param vx the forward velocity
+     * @param vy the sideways velocity in the drive frame
+     * @return the velocity in the WPILib field frame
+     */
+    public Translation2d getFieldVelocity(double vx, double vy) {
+        return new Translation2d(vx, vy * kFrameSign).rotateBy(getPose().getRotation());
+    }
+
+    /**
+     * Converts a field-frame (counter-clockwise positive) angular rate to the drive frame
+     * @param field_rate the angular rate in the field frame
+     * @return the angular rate to command through setDesiredSpeeds()
+     */
+    public double toDriveRate(double field_rate) {
+        return field_rate * kFrameSign;
+    }
+
+    /**
+     * Mirrors a blue alliance field position for the current alliance (the 2024 field is mirrored, not rotated)
+     * @param blue_position the position in blue alliance field coordinates
+     * @return the position for the robot's alliance
+     */
+    public static Translation2d allianceRelative(Translation2d blue_position) {
+        return isRedAlliance() ? new Translation2d(DriveConstants.kFieldLength - blue_position.getX(), blue_position.getY()) : blue_position;
+    }
+
+    /**
+     * Mirrors a blue alliance field pose for the current alliance
+     * @param blue_pose the pose in blue alliance field coordinates
+     * @return the pose for the robot's alliance
+     */
+    public static Pose2d allianceRelative(Pose2d blue_pose) {
+        return isRedAlliance() ?
+            new Pose2d(allianceRelative(blue_pose.getTranslation()), Rotation2d.fromDegrees(180).minus(blue_pose.getRotation()))
+            : blue_pose;
+    }
+
+    private static boolean isRedAlliance() {
+        return DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red;
+    }
+
+    /** Converts between the drive frame and the WPILib field frame (the conversion is its own inverse) */
+    private static Pose2d convertFrame(Pose2d pose) {
+        return new Pose2d(pose.getX(), pose.getY() * kFrameSign, Rotation2d.fromRadians(pose.getRotation().getRadians() * kFrameSign));
+    }
+
+    /** @return the raw gyro yaw, never reset so odometry stays continuous */
+    private Rotation2d getGyroRotation2d() {
+        return RobotBase.isSimulation() ? simulatedYaw : Rotation2d.fromDegrees(gyroscope.getAngle());
     }
 
     public double getHeading() {
-        return Math.IEEEremainder(gyroscope.getAngle(), 360);
+        return Math.IEEEremainder(getGyroRotation2d().minus(headingOffset).getDegrees(), 360);
     }
 
     public Rotation2d getRotation2d() {
@@ -62,11 +190,21 @@ public class Drive extends SubsystemBase{
         };
     }
 
+    public SwerveModulePosition[] getPositions() {
+        return new SwerveModulePosition[] {
+            leftFrontModule.getPosition(),
+            rightFrontModule.getPosition(),
+            leftBackModule.getPosition(),
+            rightBackModule.getPosition()
+        };
+    }
+
     public void setDesiredSpeeds(ChassisSpeeds speeds) {
 
         SwerveModuleState[] states = DriveConstants.kDriveKinematics.toSwerveModuleStates(speeds);
 
         SwerveDriveKinematics.desaturateWheelSpeeds(states, 1);
+        commandedStates = states;
 
         leftFrontModule.setDesiredState(states[0]);
         rightFrontModule.setDesiredState(states[1]);
@@ -76,6 +214,8 @@ public class Drive extends SubsystemBase{
     }
 
     public void stopModules() {
+        commandedStates = DriveConstants.kDriveKinematics.toSwerveModuleStates(new ChassisSpeeds());
+
         leftFrontModule.stop();
         rightFrontModule.stop();
 
@@ -102,4 +242,19 @@ public class Drive extends SubsystemBase{
         leftBackModule.zeroPivotEncoder();
         rightBackModule.zeroPivotEncoder();
     }
+
+    private static boolean statesChanged(SwerveModuleState[] last, SwerveModuleState[] current) {
+        for (int i = 0; i < current.length; i++) {
+            if (Math.abs(current[i].speedMetersPerSecond - last[i].speedMetersPerSecond) > DriveConstants.kTelemetrySpeedThreshold
+                || Math.abs(current[i].angle.minus(last[i].angle).getRadians()) > DriveConstants.kTelemetryAngleThreshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean poseChanged(Pose2d last, Pose2d current) {
+        return current.getTranslation().getDistance(last.getTranslation()) > DriveConstants.kTelemetryDistanceThreshold
+            || Math.abs(current.getRotation().minus(last.getRotation()).getRadians()) > DriveConstants.kTelemetryAngleThreshold;
+    }
 }
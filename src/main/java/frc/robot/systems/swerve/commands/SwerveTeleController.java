@@ -4,22 +4,51 @@
 
 package frc.robot.systems.swerve.commands;
 
-import java.util.function.Supplier;
+import java.util.function.DoubleSupplier;
 
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
+import frc.montylib.input.ControllerAxis;
+import frc.montylib.input.PolarTranslationInput;
 import frc.montylib.profiles.ConfigurableMotionProfile;
 import frc.montylib.profiles.ConfigurableMotionProfile.VariableSpeedMode;
 import frc.robot.systems.swerve.Drive;
+import frc.robot.systems.swerve.constants.ControlConstants;
 import frc.robot.systems.swerve.constants.DriveConstants;
 import frc.robot.systems.swerve.constants.ModuleConstants;
 
 public class SwerveTeleController extends Command {
 
-  private Supplier<Double> xSupplier, ySupplier, rSupplier, slowSupplier, fastSupplier = null;
+  /**How the robot's rotation is controlled - DRIVER also covers heading hold while the rotation stick is released */
+  public enum RotationMode {
+    DRIVER,
+    SNAP,
+    FACE_POINT
+  }
+
+  private PolarTranslationInput translationInput = null;
+  private DoubleSupplier rSupplier, slowSupplier, fastSupplier = null;
   private ConfigurableMotionProfile xMotionProfile, yMotionProfile, rMotionProfile = null;
+  private ProfiledPIDController headingController = null;
+  private boolean headingHoldActive = false;
+  private DoubleArrayLogEntry inputLog = null;
+  private final double[] loggedInputs = new double[5];
+  private RotationMode rotationMode = RotationMode.DRIVER;
+  private RotationMode lastRotationMode = RotationMode.DRIVER;
+  private double snapHeading = 0;
+  private Translation2d faceTarget = new Translation2d();
   private Drive subsystem;
 
   public SwerveTeleController(
@@ -29,15 +58,31 @@ public class SwerveTeleController extends Command {
 
     this.subsystem = subsystem;
 
-    xSupplier = () -> -controller.getRawAxis(1);
-    ySupplier = () -> controller.getRawAxis(0);
-    rSupplier = () -> controller.getRawAxis(4);
-    slowSupplier = () -> controller.getRawAxis(2);
-    fastSupplier = () -> controller.getRawAxis(3);
+    translationInput = new PolarTranslationInput(
+      new ControllerAxis(controller.getHID(), ControlConstants.kTranslationXAxis, ControlConstants.kTranslationXInverted),
+      new ControllerAxis(controller.getHID(), ControlConstants.kTranslationYAxis, ControlConstants.kTranslationYInverted),
+      ControlConstants.kTranslationDeadband
+    );
+    rSupplier = new ControllerAxis(controller.getHID(), ControlConstants.kRotationAxis, ControlConstants.kRotationDeadband, ControlConstants.kRotationInverted);
+    slowSupplier = new ControllerAxis(controller.getHID(), ControlConstants.kSlowTriggerAxis, ControlConstants.kTriggerDeadband, false);
+    fastSupplier = new ControllerAxis(controller.getHID(), ControlConstants.kFastTriggerAxis, ControlConstants.kTriggerDeadband, false);
 
     xMotionProfile = new ConfigurableMotionProfile(ModuleConstants.kMaxModuleSpeed, true, true);
     yMotionProfile = new ConfigurableMotionProfile(ModuleConstants.kMaxModuleSpeed, true, true);
     rMotionProfile = new ConfigurableMotionProfile(ModuleConstants.kMaxModuleSpeed, true, true);
+    configureMotionProfiles();
+
+    //Replayed by the gain sweep (frc.robot.tuning.DriverScenario.fromWpilog)
+    inputLog = new DoubleArrayLogEntry(DataLogManager.getLog(), ControlConstants.kDriverInputLogEntry);
+
+    headingController = new ProfiledPIDController(
+      DriveConstants.kHeadingPIDConstants.kP,
+      DriveConstants.kHeadingPIDConstants.kI,
+      DriveConstants.kHeadingPIDConstants.kD,
+      DriveConstants.kHeadingConstraints
+    );
+    headingController.enableContinuousInput(-Math.PI, Math.PI);
+    headingController.setTolerance(DriveConstants.kHeadingTolerance);
 
     addRequirements(subsystem);
   }
@@ -46,20 +91,67 @@ public class SwerveTeleController extends Command {
   public void initialize() {
     subsystem.resetHeading();
     subsystem.zeroModules();
+    headingHoldActive = false;
+    rotationMode = RotationMode.DRIVER;
+    lastRotationMode = RotationMode.DRIVER;
   }
 
   @Override
   public void execute() {
 
-    double x = xSupplier.get();
-    double y = ySupplier.get();
-    double r = rSupplier.get();
-    double slow = slowSupplier.get();
-    double fast = fastSupplier.get();
+    translationInput.update();
+
+    double x = translationInput.getX();
+    double y = translationInput.getY();
+    double rInput = rSupplier.getAsDouble();
+    double slow = slowSupplier.getAsDouble();
+    double fast = fastSupplier.getAsDouble();
+
+    loggedInputs[0] = x;
+    loggedInputs[1] = y;
+    loggedInputs[2] = rInput;
+    loggedInputs[3] = slow;
+    loggedInputs[4] = fast;
+    inputLog.append(loggedInputs);
 
     x = xMotionProfile.calculate(VariableSpeedMode.BOTH, x, fast, slow);
     y = yMotionProfile.calculate(VariableSpeedMode.BOTH, y, fast, slow);
-    r = rMotionProfile.calculate(VariableSpeedMode.BOTH, r, fast, slow);
+    double r = rMotionProfile.calculate(VariableSpeedMode.BOTH, rInput, fast, slow);
+
+    double heading = subsystem.getRotation2d().getRadians();
+
+    //Driver rotation always cancels a snap
+    if (rotationMode == RotationMode.SNAP && rInput != 0) {
+      rotationMode = RotationMode.DRIVER;
+    }
+
+    if (rotationMode != lastRotationMode) {
+      headingController.reset(rotationMode == RotationMode.FACE_POINT ? subsystem.getPose().getRotation().getRadians() : heading);
+      headingHoldActive = false;
+      lastRotationMode = rotationMode;
+    }
+
+    switch (rotationMode) {
+      case SNAP:
+        headingController.setGoal(snapHeading);
+        r = calculateHeadingOutput(heading);
+        break;
+      case FACE_POINT:
+        r = calculateFacePointOutput(x, y);
+        break;
+      default:
+        //Hold the current heading once the rotation stick is released and the rotation has decayed
+        if (rInput != 0) {
+          headingHoldActive = false;
+        } else if (!headingHoldActive && Math.abs(r) < DriveConstants.kHeadingHoldLatchThreshold) {
+          latchHeading(heading);
+        }
+
+        if (headingHoldActive) {
+          r = calculateHeadingOutput(heading);
+        }
+        break;
+    }
 
     ChassisSpeeds speeds = ChassisSpeeds.fromFieldRelativeSpeeds(x, y, r, subsystem.getRotation2d());
 
@@ -74,14 +166,96 @@ public class SwerveTeleController extends Command {
     return false;
   }
 
+  /**
+   * Creates a command which snaps the robot to a heading until the driver rotates
+   * @param heading the heading to snap to in the driver frame - clockwise-positive and zeroed when teleop starts, unlike the field frame used by face-point
+   * @return a command to bind to a trigger
+   */
+  public Command snapToHeading(Rotation2d heading) {
+    return Commands.runOnce(() -> {
+      snapHeading = heading.getRadians();
+      rotationMode = RotationMode.SNAP;
+    });
+  }
+
+  /**
+   * Creates a command which keeps the robot facing a field point while it is scheduled, leaving translation to the driver.
+   * Does nothing until the pose has been seeded with Drive.resetPose()
+   * @param blue_target the position to face in the blue alliance field frame, in meters (mirrored for red)
+   * @return a command to bind to a trigger
+   */
+  public Command facePoint(Translation2d blue_target) {
+    return Commands.startEnd(
+      () -> {
+        if (!subsystem.isPoseSeeded()) {
+          DriverStation.reportWarning("Face-point ignored - the drive pose has not been seeded", false);
+          return;
+        }
+        faceTarget = Drive.allianceRelative(blue_target);
+        rotationMode = RotationMode.FACE_POINT;
+      },
+      () -> {
+        if (rotationMode == RotationMode.FACE_POINT) rotationMode = RotationMode.DRIVER;
+      }
+    );
+  }
+
+  public RotationMode getRotationMode() {
+    return rotationMode;
+  }
+
+  private void latchHeading(double heading) {
+    headingController.reset(heading);
+    headingController.setGoal(heading);
+    headingHoldActive = true;
+  }
+
+  /** Runs the heading controller towards its goal, with the profile's velocity as feedforward. Feedback stops within kHeadingTolerance so the modules don't jitter */
+  private double calculateHeadingOutput(double heading) {
+    double feedback = headingController.calculate(heading);
+    if (headingController.atGoal()) feedback = 0;
+    return (feedback + headingController.getSetpoint().velocity) / ModuleConstants.kMaxModuleSpeed;
+  }
+
+  /**
+   * Aims at the face-point target in the field frame, feeding forward the target's apparent angular rate from the commanded translation
+   * @param x the commanded driver-relative x speed (fraction of max module speed)
+   * @param y the commanded driver-relative y speed (fraction of max module speed)
+   * @return the rotation output in the drive frame
+   */
+  private double calculateFacePointOutput(double x, double y) {
+    Pose2d pose = subsystem.getPose();
+    double dx = faceTarget.getX() - pose.getX();
+    double dy = faceTarget.getY() - pose.getY();
+    double distanceSquared = dx * dx + dy * dy;
+
+    //Too close to the target for a stable angle - keep the last goal
+    if (distanceSquared > DriveConstants.kFacePointMinDistance * DriveConstants.kFacePointMinDistance) {
+      ChassisSpeeds robotRelative = ChassisSpeeds.fromFieldRelativeSpeeds(
+        x * ModuleConstants.kMaxModuleSpeed,
+        y * ModuleConstants.kMaxModuleSpeed,
+        0,
+        subsystem.getRotation2d()
+      );
+      Translation2d velocity = subsystem.getFieldVelocity(robotRelative.vxMetersPerSecond, robotRelative.vyMetersPerSecond);
+
+      double maxRate = DriveConstants.kHeadingConstraints.maxVelocity;
+      double targetRate = MathUtil.clamp((dy * velocity.getX() - dx * velocity.getY()) / distanceSquared, -maxRate, maxRate);
+
+      headingController.setGoal(new TrapezoidProfile.State(Math.atan2(dy, dx), targetRate));
+    }
+
+    return subsystem.toDriveRate(calculateHeadingOutput(pose.getRotation().getRadians()));
+  }
+
   public void configureMotionProfiles() {
-    xMotionProfile.configureAcceleration(3);
+    xMotionProfile.configureAcceleration(DriveConstants.kTranslationAcceleration);
     xMotionProfile.configureTriSpeedControl(DriveConstants.kPrimarySpeed, DriveConstants.kSecondarySpeed, DriveConstants.kTertiarySpeed);
 
-    yMotionProfile.configureAcceleration(3);
+    yMotionProfile.configureAcceleration(DriveConstants.kTranslationAcceleration);
     yMotionProfile.configureTriSpeedControl(DriveConstants.kPrimarySpeed, DriveConstants.kSecondarySpeed, DriveConstants.kTertiarySpeed);
 
-    rMotionProfile.configureAcceleration(3);
+    rMotionProfile.configureAcceleration(DriveConstants.kRotationAcceleration);
     rMotionProfile.configureTriSpeedControl(DriveConstants.kPrimaryAngularSpeed, DriveConstants.kSecondaryAngularSpeed, DriveConstants.kTertiaryAngularSpeed);
   }
 } 
@@ -0,0 +1,23 @@
+package frc.robot.systems.swerve.constants;
+
+public class ControlConstants {
+
+    public static int kDriverControllerPort = 0;
+
+    public static int kTranslationXAxis = 1;
+    public static int kTranslationYAxis = 0;
+    public static int kRotationAxis = 4;
+    public static int kSlowTriggerAxis = 2;
+    public static int kFastTriggerAxis = 3;
+
+    public static boolean kTranslationXInverted = true;
+    public static boolean kTranslationYInverted = false;
+    public static boolean kRotationInverted = false;
+
+    public static double kTranslationDeadband = 0.08;
+    public static double kRotationDeadband = 0.08;
+    public static double kTriggerDeadband = 0.05;
+
+    /**DataLog entry holding the shaped {x, y, r, slow, fast} inputs every loop */
+    public static String kDriverInputLogEntry = "/SwerveTeleController/Inputs";
+}
@@ -1,7 +1,12 @@
 package frc.robot.systems.swerve.constants;
 
+import com.pathplanner.lib.util.PIDConstants;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import edu.wpi.first.math.util.Units;
 
 public class DriveConstants {
@@ -27,4 +32,28 @@ public class DriveConstants {
     public static double kPrimaryAngularSpeed = 3 * Math.PI;
     public static double kSecondaryAngularSpeed = 6 * Math.PI;
     public static double kTertiaryAngularSpeed = 2 * Math.PI;
+
+    public static double kTranslationAcceleration = 3;
+    public static double kRotationAcceleration = 8 * Math.PI;
+
+    public static PIDConstants kHeadingPIDConstants = new PIDConstants(4.0, 0.0, 0.0);
+    public static TrapezoidProfile.Constraints kHeadingConstraints = new TrapezoidProfile.Constraints(kPrimaryAngularSpeed, kRotationAcceleration);
+    public static double kHeadingHoldLatchThreshold = 0.01;
+    public static double kHeadingTolerance = Math.toRadians(1.5);
+
+    /**The NavX (getAngle) and the MK4i pivots are clockwise-positive, so the drive frame's +y is to the robot's right */
+    public static boolean kDriveFrameClockwise = true;
+
+    //Field positions are in the WPILib field frame from the blue alliance (origin at the blue wall, +y left, counter-clockwise positive)
+    //and are mirrored for the red alliance with Drive.allianceRelative()
+    public static double kFieldLength = 16.54;
+    /**Robot against the front of the subwoofer, facing away from the driver station */
+    public static Pose2d kStartingPose = new Pose2d(1.37, 5.55, new Rotation2d());
+    /**Speaker opening */
+    public static Translation2d kFacePointTarget = new Translation2d(0.0, 5.55);
+    public static double kFacePointMinDistance = 0.25;
+
+    public static double kTelemetrySpeedThreshold = 0.01;
+    public static double kTelemetryAngleThreshold = 0.01;
+    public static double kTelemetryDistanceThreshold = 0.01;
 }
@@ -0,0 +1,75 @@
+package frc.montylib.tuning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A MontyLib class to evaluate a cost function over many candidates in parallel and rank the results.
+ * Candidates are split into independent chunks with no shared state, so throughput scales with core count
+ * as long as the cost function only touches its own objects (and SimulatedClock).
+ */
+public class ParallelSweep {
+
+    /** A candidate paired with its cost - lower is better */
+    public static class Result<T> implements Comparable<Result<T>> {
+        public final T candidate;
+        public final double cost;
+
+        public Result(T candidate, double cost) {
+            this.candidate = candidate;
+            this.cost = cost;
+        }
+
+        @Override
+        public int compareTo(Result<T> other) {
+            return Double.compare(cost, other.cost);
+        }
+    }
+
+    /**
+     * Evaluates every candidate and returns them ranked by cost
+     * @param candidates the candidates to evaluate
+     * @param cost_function the cost of one candidate (called concurrently from several threads)
+     * @param threads the number of worker threads
+     * @return the results, lowest cost first
+     */
+    public static <T> List<Result<T>> run(List<T> candidates, ToDoubleFunction<T> cost_function, int threads)
+        throws InterruptedException, ExecutionException {
+
+        //Several chunks per thread so uneven candidates still balance across cores
+        int chunkSize = Math.max(1, candidates.size() / (threads * 4));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Result<T>>>> futures = new ArrayList<>();
+
+        try {
+            for (int start = 0; start < candidates.size(); start += chunkSize) {
+                List<T> chunk = candidates.subList(start, Math.min(start + chunkSize, candidates.size()));
+
+                futures.add(executor.submit(() -> {
+                    List<Result<T>> chunkResults = new ArrayList<>(chunk.size());
+                    for (T candidate : chunk) {
+                        chunkResults.add(new Result<>(candidate, cost_function.applyAsDouble(candidate)));
+                    }
+                    return chunkResults;
+                }));
+            }
+
+            List<Result<T>> results = new ArrayList<>(candidates.size());
+            for (Future<List<Result<T>>> future : futures) {
+                results.addAll(future.get());
+            }
+
+            Collections.sort(results);
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
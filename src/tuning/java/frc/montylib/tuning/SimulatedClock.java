@@ -0,0 +1,47 @@
+package frc.montylib.tuning;
+
+import edu.wpi.first.math.MathShared;
+import edu.wpi.first.math.MathSharedStore;
+import edu.wpi.first.math.MathUsageId;
+
+/**
+ * A MontyLib class providing a per-thread simulated clock to WPILib math classes (SlewRateLimiter etc.)
+ * so headless simulations can run faster than real time, several at once, without sharing a timestamp.
+ * @implNote only for desktop tools - installing replaces the robot's MathShared implementation
+ */
+public final class SimulatedClock {
+    private static final ThreadLocal<double[]> time = ThreadLocal.withInitial(() -> new double[1]);
+
+    private SimulatedClock() {}
+
+    /**Replaces the WPILib math timestamp source with the calling thread's simulated time */
+    public static void install() {
+        MathSharedStore.setMathShared(new MathShared() {
+            @Override
+            public void reportError(String error, StackTraceElement[] stackTrace) {
+                System.err.println(error);
+            }
+
+            @Override
+            public void reportUsage(MathUsageId id, int count) {}
+
+            @Override
+            public double getTimestamp() {
+                return time.get()[0];
+            }
+        });
+    }
+
+    /**
+     * Advances the calling thread's simulated time
+     * @param seconds the time step
+     */
+    public static void advance(double seconds) {
+        time.get()[0] += seconds;
+    }
+
+    /** @return the calling thread's simulated time in seconds */
+    public static double get() {
+        return time.get()[0];
+    }
+}
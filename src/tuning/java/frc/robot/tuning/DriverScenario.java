@@ -0,0 +1,186 @@
+package frc.robot.tuning;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import frc.robot.systems.swerve.constants.ControlConstants;
+
+/**A timed sequence of driver inputs replayed into the simulated drivetrain */
+public interface DriverScenario {
+
+    /**Logged inputs further apart than this (seconds) start a new scenario - the input entry is only appended while teleop runs */
+    double kMaxLogGap = 0.1;
+
+    /**Samples driver inputs at a point in time */
+    interface Sampler {
+        /**
+         * @param time seconds since the start of the scenario
+         * @param inputs filled with {x, y, r, slow, fast}, already deadbanded and shaped
+         */
+        void sample(double time, double[] inputs);
+    }
+
+    String getName();
+
+    double getDuration();
+
+    void sample(double time, double[] inputs);
+
+    static DriverScenario of(String name, double duration, Sampler sampler) {
+        return new DriverScenario() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public double getDuration() {
+                return duration;
+            }
+
+            @Override
+            public void sample(double time, double[] inputs) {
+                Arrays.fill(inputs, 0.0);
+                sampler.sample(time, inputs);
+            }
+        };
+    }
+
+    /** @return the built-in scripted scenarios */
+    static List<DriverScenario> scripted() {
+        return List.of(
+            of("step forward", 6.0, (t, in) -> {
+                if (t > 0.5 && t < 4.0) in[0] = 1.0;
+            }),
+            of("strafe reversal", 6.0, (t, in) -> {
+                if (t < 2.0) in[1] = 1.0;
+                else if (t < 4.0) in[1] = -1.0;
+            }),
+            of("diagonal boost", 5.0, (t, in) -> {
+                if (t < 3.0) {
+                    in[0] = Math.sqrt(0.5);
+                    in[1] = Math.sqrt(0.5);
+                    in[4] = 1.0;
+                }
+            }),
+            of("spin in place", 6.0, (t, in) -> {
+                if (t < 2.0) in[2] = 1.0;
+                else if (t < 4.0) in[2] = -1.0;
+            }),
+            of("slow arc", 6.0, (t, in) -> {
+                if (t < 4.0) {
+                    in[0] = 0.6;
+                    in[2] = 0.5;
+                    in[3] = 1.0;
+                }
+            }),
+            of("circle", 8.0, (t, in) -> {
+                if (t < 6.0) {
+                    in[0] = Math.cos(t);
+                    in[1] = Math.sin(t);
+                }
+            })
+        );
+    }
+
+    /**
+     * Loads a driver log replay from a robot DataLog (the .wpilog files in /home/lvuser/logs or on the USB stick)
+     * @param path a .wpilog file containing the SwerveTeleController input entry (ControlConstants.kDriverInputLogEntry)
+     * @return one scenario per continuous stretch of teleop, each holding a logged loop's inputs until the next one
+     */
+    static List<DriverScenario> fromWpilog(Path path) throws IOException {
+        DataLogReader reader = new DataLogReader(path.toString());
+        if (!reader.isValid()) {
+            throw new IOException("Not a valid DataLog: " + path);
+        }
+
+        List<double[]> rows = new ArrayList<>();
+        int entry = -1;
+
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                DataLogRecord.StartRecordData start = record.getStartData();
+                if (start.name.equals(ControlConstants.kDriverInputLogEntry)) entry = start.entry;
+            } else if (!record.isControl() && record.getEntry() == entry) {
+                double[] inputs = record.getDoubleArray();
+                if (inputs.length < 5) continue;
+
+                double[] row = new double[6];
+                row[0] = record.getTimestamp() / 1e6;
+                System.arraycopy(inputs, 0, row, 1, 5);
+                rows.add(row);
+            }
+        }
+
+        return fromRows(path, rows);
+    }
+
+    /**
+     * Loads a driver log replay from a CSV (hand-written, or exported from a DataLog with the same columns)
+     * @param path a CSV file with rows of "time,x,y,r,slow,fast" (lines that do not parse, e.g. a header, are skipped)
+     * @return one scenario per stretch of rows without a gap, each holding a row's inputs until the next row
+     */
+    static List<DriverScenario> fromCsv(Path path) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+
+        for (String line : Files.readAllLines(path)) {
+            String[] fields = line.split(",");
+            if (fields.length < 6) continue;
+
+            try {
+                double[] row = new double[6];
+                for (int i = 0; i < 6; i++) {
+                    row[i] = Double.parseDouble(fields[i].trim());
+                }
+                rows.add(row);
+            } catch (NumberFormatException e) {}
+        }
+
+        return fromRows(path, rows);
+    }
+
+    /** Builds zero-order-hold replays from rows of {time, x, y, r, slow, fast}, split wherever the rows are more than kMaxLogGap apart */
+    private static List<DriverScenario> fromRows(Path path, List<double[]> rows) throws IOException {
+        List<DriverScenario> scenarios = new ArrayList<>();
+        String name = path.getFileName().toString();
+
+        int start = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || rows.get(i)[0] - rows.get(i - 1)[0] > kMaxLogGap) {
+                List<double[]> segment = rows.subList(start, i);
+                double duration = segment.get(segment.size() - 1)[0] - segment.get(0)[0];
+                if (duration > 0) scenarios.add(fromSegment(name + " #" + (scenarios.size() + 1), segment));
+                start = i;
+            }
+        }
+
+        if (scenarios.isEmpty()) {
+            throw new IOException("No input rows in " + path);
+        }
+        return scenarios;
+    }
+
+    /** Holds each row's inputs until the next row */
+    private static DriverScenario fromSegment(String name, List<double[]> rows) {
+        double startTime = rows.get(0)[0];
+        double duration = rows.get(rows.size() - 1)[0] - startTime;
+
+        return of(name, duration, (t, in) -> {
+            //Last row at or before t
+            int low = 0;
+            int high = rows.size() - 1;
+            while (low < high) {
+                int mid = (low + high + 1) / 2;
+                if (rows.get(mid)[0] - startTime <= t) low = mid;
+                else high = mid - 1;
+            }
+            System.arraycopy(rows.get(low), 1, in, 0, 5);
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package frc.robot.tuning;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**One set of drivetrain constants evaluated by the gain sweep */
+public class DrivetrainGains {
+    public final double pivotP;
+    public final double pivotD;
+    public final double translationAcceleration;
+    public final double rotationAcceleration;
+
+    public DrivetrainGains(
+        double pivot_p,
+        double pivot_d,
+        double translation_acceleration,
+        double rotation_acceleration
+    ) {
+        this.pivotP = pivot_p;
+        this.pivotD = pivot_d;
+        this.translationAcceleration = translation_acceleration;
+        this.rotationAcceleration = rotation_acceleration;
+    }
+
+    /**
+     * @return every combination of the swept values
+     * @implNote the DriveConstants speed tiers are not swept - the cost is relative to the driver's intent, so it can only
+     * ever favour slower tiers
+     */
+    public static List<DrivetrainGains> grid() {
+        double[] pivotPs = {0.3, 0.5, 0.8, 1.2, 1.6};
+        double[] pivotDs = {0.0, 0.005, 0.01};
+        double[] translationAccelerations = {3, 6, 12, 24, 36, 48};
+        double[] rotationAccelerations = {2 * Math.PI, 4 * Math.PI, 8 * Math.PI, 12 * Math.PI, 16 * Math.PI};
+
+        List<DrivetrainGains> grid = new ArrayList<>();
+        for (double p : pivotPs) {
+            for (double d : pivotDs) {
+                for (double translation : translationAccelerations) {
+                    for (double rotation : rotationAccelerations) {
+                        grid.add(new DrivetrainGains(p, d, translation, rotation));
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    /** @return the gains as constant declarations to paste into ModuleConstants and DriveConstants */
+    public String toConstants() {
+        return String.format(
+            "// ModuleConstants%n" +
+            "public static PIDConstants kPivotPIDConstants = new PIDConstants(%s, 0.0, %s);%n" +
+            "// DriveConstants%n" +
+            "public static double kTranslationAcceleration = %s;%n" +
+            "public static double kRotationAcceleration = %s;",
+            pivotP, pivotD, translationAcceleration, rotationAcceleration
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "pivotP=%.3f pivotD=%.3f translationAccel=%.1f rotationAccel=%.1f",
+            pivotP, pivotD, translationAcceleration, rotationAcceleration
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package frc.robot.tuning;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.montylib.tuning.ParallelSweep;
+import frc.montylib.tuning.ParallelSweep.Result;
+import frc.montylib.tuning.SimulatedClock;
+
+/**
+ * Desktop tool - sweeps drivetrain gains over headless simulated drivetrains on every core and prints the best constants.
+ * Run with: ./gradlew gainSweep -PsweepArgs="--threads 8 --top 10 --log FRC_20240316_183512.wpilog"
+ * Driver logs are the robot's .wpilog files (SwerveTeleController logs its shaped inputs every loop; copy them from
+ * /home/lvuser/logs or the USB stick), or CSV rows of "time,x,y,r,slow,fast". --logs-only skips the scripted scenarios.
+ */
+public final class GainSweep {
+    private GainSweep() {}
+
+    public static void main(String... args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int top = 10;
+        boolean includeScripted = true;
+        List<DriverScenario> scenarios = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--top": top = Integer.parseInt(args[++i]); break;
+                case "--log": scenarios.addAll(loadLog(Path.of(args[++i]))); break;
+                case "--logs-only": includeScripted = false; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        if (includeScripted) scenarios.addAll(DriverScenario.scripted());
+        if (scenarios.isEmpty()) throw new IllegalArgumentException("No scenarios - pass --log with --logs-only");
+
+        SimulatedClock.install();
+
+        List<DrivetrainGains> candidates = DrivetrainGains.grid();
+        System.out.printf("Evaluating %d candidates x %d scenarios on %d threads%n", candidates.size(), scenarios.size(), threads);
+
+        long start = System.nanoTime();
+        List<Result<DrivetrainGains>> results = ParallelSweep.run(
+            candidates,
+            gains -> SimulatedDrivetrain.evaluate(gains, scenarios),
+            threads
+        );
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Finished in %.2fs (%.0f candidates/s)%n%n", elapsed, candidates.size() / elapsed);
+
+        for (int i = 0; i < Math.min(top, results.size()); i++) {
+            Result<DrivetrainGains> result = results.get(i);
+            System.out.printf("%3d. cost=%.4f  %s%n", i + 1, result.cost, result.candidate);
+        }
+
+        System.out.printf("%nBest constants:%n%s%n", results.get(0).candidate.toConstants());
+    }
+
+    private static List<DriverScenario> loadLog(Path path) throws IOException {
+        return path.toString().endsWith(".wpilog") ? DriverScenario.fromWpilog(path) : DriverScenario.fromCsv(path);
+    }
+}
@@ -0,0 +1,186 @@
+package frc.robot.tuning;
+
+import java.util.List;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.montylib.profiles.ConfigurableMotionProfile;
+import frc.montylib.profiles.ConfigurableMotionProfile.VariableSpeedMode;
+import frc.montylib.tuning.SimulatedClock;
+import frc.robot.systems.swerve.constants.DriveConstants;
+import frc.robot.systems.swerve.constants.ModuleConstants;
+
+/**
+ * A headless swerve drivetrain running the SwerveTeleController/Module control pipeline against a simple plant.
+ * Speeds are in the same normalized units the robot sends to the motors (1.0 = full power).
+ * Heading is not modeled, so field-relative and robot-relative speeds are the same.
+ */
+public class SimulatedDrivetrain {
+    private static final double kLoopPeriod = 0.02;
+    private static final int kSubsteps = 4;
+
+    //NEO free speed through the pivot gearing, in radians per second at full power
+    private static final double kPivotFreeSpeed = 5676.0 / 60.0 * ModuleConstants.kPivotGearRatio * 2 * Math.PI;
+    private static final double kPivotTimeConstant = 0.04;
+    private static final double kDriveTimeConstant = 0.1;
+    //Traction limit (~1.1g) as a fraction of the free wheel speed per second
+    private static final double kMaxDriveAcceleration = 2.9;
+
+    private static final double kSettleTolerance = 0.05;
+    private static final double kSettleWeight = 1.0;
+    private static final double kSlipWeight = 2.0;
+
+    //Kinematics keeps per-call state, so each drivetrain gets its own instead of sharing DriveConstants.kDriveKinematics
+    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(
+        DriveConstants.kLeftFrontFromCenter,
+        DriveConstants.kRightFrontFromCenter,
+        DriveConstants.kLeftBackFromCenter,
+        DriveConstants.kRightBackFromCenter
+    );
+
+    private final ConfigurableMotionProfile xMotionProfile, yMotionProfile, rMotionProfile;
+    private final ConfigurableMotionProfile xIntent, yIntent, rIntent;
+    private final PIDController[] pivotControllers = new PIDController[4];
+
+    private final double[] pivotAngle = new double[4];
+    private final double[] pivotVelocity = new double[4];
+    private final double[] driveSpeed = new double[4];
+    private final SwerveModuleState[] actualStates = new SwerveModuleState[4];
+
+    public SimulatedDrivetrain(DrivetrainGains gains) {
+        //Configured as in SwerveTeleController.configureMotionProfiles()
+        xMotionProfile = createProfile(true, gains.translationAcceleration, DriveConstants.kPrimarySpeed, DriveConstants.kSecondarySpeed, DriveConstants.kTertiarySpeed);
+        yMotionProfile = createProfile(true, gains.translationAcceleration, DriveConstants.kPrimarySpeed, DriveConstants.kSecondarySpeed, DriveConstants.kTertiarySpeed);
+        rMotionProfile = createProfile(true, gains.rotationAcceleration, DriveConstants.kPrimaryAngularSpeed, DriveConstants.kSecondaryAngularSpeed, DriveConstants.kTertiaryAngularSpeed);
+
+        //The driver's intent - the same speed tiers without acceleration limiting
+        xIntent = createProfile(false, 0, DriveConstants.kPrimarySpeed, DriveConstants.kSecondarySpeed, DriveConstants.kTertiarySpeed);
+        yIntent = createProfile(false, 0, DriveConstants.kPrimarySpeed, DriveConstants.kSecondarySpeed, DriveConstants.kTertiarySpeed);
+        rIntent = createProfile(false, 0, DriveConstants.kPrimaryAngularSpeed, DriveConstants.kSecondaryAngularSpeed, DriveConstants.kTertiaryAngularSpeed);
+
+        for (int i = 0; i < 4; i++) {
+            pivotControllers[i] = new PIDController(gains.pivotP, 0.0, gains.pivotD, kLoopPeriod);
+            pivotControllers[i].enableContinuousInput(-Math.PI, Math.PI);
+            actualStates[i] = new SwerveModuleState();
+        }
+    }
+
+    private static ConfigurableMotionProfile createProfile(boolean limited, double acceleration, double primary, double secondary, double tertiary) {
+        ConfigurableMotionProfile profile = new ConfigurableMotionProfile(ModuleConstants.kMaxModuleSpeed, limited, true);
+        if (limited) profile.configureAcceleration(acceleration);
+        profile.configureTriSpeedControl(primary, secondary, tertiary);
+        return profile;
+    }
+
+    /**
+     * Runs every scenario on a fresh drivetrain and sums their costs
+     * @param gains the gains to evaluate
+     * @param scenarios the driver inputs to follow
+     * @return the total cost - lower is better
+     */
+    public static double evaluate(DrivetrainGains gains, List<DriverScenario> scenarios) {
+        double cost = 0;
+        for (DriverScenario scenario : scenarios) {
+            SimulatedDrivetrain drivetrain = new SimulatedDrivetrain(gains);
+            cost += drivetrain.run(scenario);
+            drivetrain.close();
+        }
+        return cost;
+    }
+
+    /**
+     * Follows a scenario from rest
+     * @param scenario the driver inputs to follow
+     * @return RMS tracking error (relative to the RMS intended speed) plus weighted unsettled and wheel-slip time fractions
+     */
+    public double run(DriverScenario scenario) {
+        double[] inputs = new double[5];
+        double squaredError = 0, squaredIntent = 0;
+        double unsettledTime = 0, slipTime = 0;
+        int loops = 0;
+
+        for (double t = 0; t < scenario.getDuration(); t += kLoopPeriod) {
+            SimulatedClock.advance(kLoopPeriod);
+            scenario.sample(t, inputs);
+
+            double x = inputs[0], y = inputs[1], r = inputs[2], slow = inputs[3], fast = inputs[4];
+
+            ChassisSpeeds intent = new ChassisSpeeds(
+                xIntent.calculate(VariableSpeedMode.BOTH, x, fast, slow),
+                yIntent.calculate(VariableSpeedMode.BOTH, y, fast, slow),
+                rIntent.calculate(VariableSpeedMode.BOTH, r, fast, slow)
+            );
+            ChassisSpeeds commanded = new ChassisSpeeds(
+                xMotionProfile.calculate(VariableSpeedMode.BOTH, x, fast, slow),
+                yMotionProfile.calculate(VariableSpeedMode.BOTH, y, fast, slow),
+                rMotionProfile.calculate(VariableSpeedMode.BOTH, r, fast, slow)
+            );
+
+            slipTime += step(commanded);
+
+            ChassisSpeeds actual = kinematics.toChassisSpeeds(actualStates);
+            double ex = actual.vxMetersPerSecond - intent.vxMetersPerSecond;
+            double ey = actual.vyMetersPerSecond - intent.vyMetersPerSecond;
+            double er = actual.omegaRadiansPerSecond - intent.omegaRadiansPerSecond;
+            double error = ex * ex + ey * ey + er * er;
+
+            squaredError += error;
+            squaredIntent += intent.vxMetersPerSecond * intent.vxMetersPerSecond
+                + intent.vyMetersPerSecond * intent.vyMetersPerSecond
+                + intent.omegaRadiansPerSecond * intent.omegaRadiansPerSecond;
+            if (Math.sqrt(error) > kSettleTolerance) unsettledTime += kLoopPeriod;
+            loops++;
+        }
+
+        double rmsError = Math.sqrt(squaredError / loops);
+        double rmsIntent = Math.max(Math.sqrt(squaredIntent / loops), 1e-3);
+        double duration = loops * kLoopPeriod;
+
+        return rmsError / rmsIntent + kSettleWeight * unsettledTime / duration + kSlipWeight * slipTime / duration;
+    }
+
+    /** Applies one loop of commands as Drive.setDesiredSpeeds()/Module.setDesiredState() would, returning the wheel-slip time */
+    private double step(ChassisSpeeds commanded) {
+        SwerveModuleState[] states = kinematics.toSwerveModuleStates(commanded);
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, 1);
+
+        double slipTime = 0;
+        for (int i = 0; i < 4; i++) {
+            double driveOutput = 0, pivotOutput = 0;
+
+            if (states[i].speedMetersPerSecond >= 0.001) {
+                SwerveModuleState state = SwerveModuleState.optimize(states[i], Rotation2d.fromRadians(pivotAngle[i]));
+                driveOutput = state.speedMetersPerSecond;
+                pivotOutput = MathUtil.clamp(pivotControllers[i].calculate(pivotAngle[i], state.angle.getRadians()), -1, 1);
+            }
+
+            double h = kLoopPeriod / kSubsteps;
+            for (int s = 0; s < kSubsteps; s++) {
+                pivotVelocity[i] += (pivotOutput * kPivotFreeSpeed - pivotVelocity[i]) * h / kPivotTimeConstant;
+                pivotAngle[i] = MathUtil.angleModulus(pivotAngle[i] + pivotVelocity[i] * h);
+
+                double acceleration = (driveOutput - driveSpeed[i]) / kDriveTimeConstant;
+                if (Math.abs(acceleration) > kMaxDriveAcceleration) {
+                    acceleration = Math.copySign(kMaxDriveAcceleration, acceleration);
+                    slipTime += h / 4;
+                }
+                driveSpeed[i] += acceleration * h;
+            }
+
+            actualStates[i].speedMetersPerSecond = driveSpeed[i];
+            actualStates[i].angle = Rotation2d.fromRadians(pivotAngle[i]);
+        }
+        return slipTime;
+    }
+
+    /** Releases the pivot controllers from the Sendable registry */
+    public void close() {
+        for (PIDController controller : pivotControllers) {
+            controller.close();
+        }
+    }
+}